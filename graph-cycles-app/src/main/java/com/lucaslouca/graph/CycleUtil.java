@@ -1,5 +1,6 @@
 package com.lucaslouca.graph;
 
+import java.io.IOException;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -8,9 +9,32 @@ import java.util.Set;
 
 public class CycleUtil {
 	private Graph originalGraph;
+	private final int parallelism;
 
 	public CycleUtil(Graph originalGraph) {
+		this(originalGraph, 1);
+	}
+
+	/**
+	 * Constructor for <code>CycleUtil</code>.
+	 * 
+	 * @param originalGraph
+	 *            the <code>Graph</code>
+	 * @param parallelism
+	 *            the number of threads used to compute the cycle basis. With
+	 *            more than one thread the basis is computed by
+	 *            <code>ParallelCycleBasis</code>. The cycles found do not
+	 *            depend on the number of threads: for graphs that are not
+	 *            connected or have one-way edges the single-threaded basis,
+	 *            which only covers the component of the first vertex and
+	 *            follows edge directions, is used.
+	 */
+	public CycleUtil(Graph originalGraph, int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("Parallelism must be at least 1!");
+		}
 		this.originalGraph = originalGraph;
+		this.parallelism = parallelism;
 	}
 
 	/**
@@ -25,11 +49,100 @@ public class CycleUtil {
 		if (originalGraph == null) {
 			throw new IllegalArgumentException("Graph cannot be null!");
 		}
-		List<List<Vertex>> cycleBasis = computeCycleBasisOfGraph(originalGraph);
+		List<List<Vertex>> cycleBasis = computeCycleBasis();
 		List<Graph> allCycles = listAllCyclesFromBasis(originalGraph, cycleBasis);
 		return allCycles;
 	}
 
+	/**
+	 * Returns the incidence vectors of all cycles in the Graph, kept outside
+	 * of the Java heap. The vectors are the same ones
+	 * <code>listAllCycles()</code> turns into <code>Graph</code>s, use
+	 * <code>cycleFromIncidenceVector(BigInteger)</code> to do so.<br>
+	 * <br>
+	 * 
+	 * The caller is responsible for closing the returned store.
+	 * 
+	 * @param memoryThreshold
+	 *            number of bytes of direct memory to use before the store pages
+	 *            out to a temporary file
+	 * @return An <code>IncidenceVectorStore</code> holding all the cycles.
+	 * 
+	 * @throws <code>IllegalArgumentException</code> if graph is
+	 *         <code>null</code>.
+	 */
+	public IncidenceVectorStore listAllCycleVectors(long memoryThreshold) {
+		if (originalGraph == null) {
+			throw new IllegalArgumentException("Graph cannot be null!");
+		}
+		List<List<Vertex>> cycleBasis = computeCycleBasis();
+		if (cycleBasis.size() > 62) {
+			throw new IllegalStateException("Cannot enumerate all combinations of " + cycleBasis.size() + " basis cycles");
+		}
+
+		IncidenceVectorStore store = new IncidenceVectorStore(originalGraph.getEdges().size(), memoryThreshold);
+		try {
+			long[][] basisVectors = new long[cycleBasis.size()][];
+			for (int i = 0; i < cycleBasis.size(); i++) {
+				BigInteger iv = incidenceVectorOfCycle(cycleBasis.get(i), originalGraph.getEdges());
+				basisVectors[i] = new long[store.getWords()];
+				for (int w = 0; w < store.getWords(); w++) {
+					basisVectors[i][w] = iv.shiftRight(w * 64).longValue();
+				}
+			}
+
+			// Walk all combinations in Gray code order, so that each
+			// combination differs from the previous one by exactly one basis
+			// vector
+			long[] current = new long[store.getWords()];
+			long combinations = 1L << cycleBasis.size();
+			for (long step = 1; step < combinations; step++) {
+				long[] flipped = basisVectors[Long.numberOfTrailingZeros(step)];
+				for (int w = 0; w < current.length; w++) {
+					current[w] ^= flipped[w];
+				}
+				store.add(current);
+			}
+		} catch (RuntimeException | Error e) {
+			// The caller never gets to close a store that failed half-way
+			try {
+				store.close();
+			} catch (IOException closeException) {
+				e.addSuppressed(closeException);
+			}
+			throw e;
+		}
+
+		return store;
+	}
+
+	/**
+	 * Generates a cycle out of an incidence vector of the Graph.
+	 * 
+	 * @param vector
+	 *            A BigInteger representing the incidence vector of a cycle
+	 * @return A <code>Graph</code> object representing the cycle described by
+	 *         the incidence vector <code>vector</code>.
+	 */
+	public Graph cycleFromIncidenceVector(BigInteger vector) {
+		return cycleFromIncidenceVector(vector, originalGraph.getEdges());
+	}
+
+	private List<List<Vertex>> computeCycleBasis() {
+		if (originalGraph.getVertices().isEmpty()) {
+			return new ArrayList<List<Vertex>>();
+		}
+		if (parallelism > 1) {
+			ParallelCycleBasis parallelCycleBasis = new ParallelCycleBasis(originalGraph, parallelism);
+
+			// Only then both bases span the same cycles
+			if (parallelCycleBasis.getComponents() == 1 && parallelCycleBasis.isUndirected()) {
+				return parallelCycleBasis.computeCycleBasis();
+			}
+		}
+		return computeCycleBasisOfGraph(originalGraph);
+	}
+
 	/**
 	 * Computes and returns a cycle basis of <code>Graph</code> g.
 	 * 
@@ -0,0 +1,438 @@
+package com.lucaslouca.graph;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Stores incidence vectors of a fixed bit width outside of the Java heap.<br>
+ * <br>
+ *
+ * Every vector takes the same number of 64-bit words and is written into
+ * fixed-size pages. Pages are direct <code>ByteBuffer</code>s until
+ * <code>memoryThreshold</code> bytes are allocated, further pages are
+ * memory-mapped regions of a temporary file. The heap footprint therefore
+ * stays flat no matter how many vectors are stored.<br>
+ * <br>
+ *
+ * Bit <code>i</code> of a stored vector is bit <code>i</code> of the
+ * <code>BigInteger</code> it was created from. Adding vectors is not thread
+ * safe, reading (including {@link #scan(Visitor, int)}) is, as long as no
+ * vectors are added at the same time.
+ */
+public class IncidenceVectorStore implements Iterable<BigInteger>, Closeable {
+	private static final int DEFAULT_PAGE_SIZE = 1 << 20;
+
+	private final int width;
+	private final int words;
+	private final int recordSize;
+	private final int recordsPerPage;
+	private final long memoryThreshold;
+	private final List<ByteBuffer> pages = new ArrayList<ByteBuffer>();
+
+	private long size;
+	private long memoryAllocated;
+	private File file;
+	private RandomAccessFile randomAccessFile;
+	private long fileSize;
+
+	/**
+	 * Visitor for {@link IncidenceVectorStore#scan(Visitor, int)}.
+	 */
+	public interface Visitor {
+		/**
+		 * Called once for every stored vector.
+		 *
+		 * @param index
+		 *            index of the vector
+		 * @param words
+		 *            the vector's words, least significant word first. The
+		 *            array is reused for the next call of the same thread.
+		 */
+		void visit(long index, long[] words);
+	}
+
+	/**
+	 * Constructor for <code>IncidenceVectorStore</code> that keeps all pages in
+	 * memory.
+	 *
+	 * @param width
+	 *            number of bits of each vector
+	 */
+	public IncidenceVectorStore(int width) {
+		this(width, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Constructor for <code>IncidenceVectorStore</code>.
+	 *
+	 * @param width
+	 *            number of bits of each vector
+	 * @param memoryThreshold
+	 *            number of bytes of direct memory to use before further pages
+	 *            are mapped from a temporary file
+	 */
+	public IncidenceVectorStore(int width, long memoryThreshold) {
+		this(width, memoryThreshold, DEFAULT_PAGE_SIZE);
+	}
+
+	IncidenceVectorStore(int width, long memoryThreshold, int pageSize) {
+		if (width < 0) {
+			throw new IllegalArgumentException("Width cannot be negative!");
+		}
+		if (memoryThreshold < 0) {
+			throw new IllegalArgumentException("Memory threshold cannot be negative!");
+		}
+		this.width = width;
+		this.words = Math.max(1, (width + 63) / 64);
+		this.recordSize = words * 8;
+		this.recordsPerPage = Math.max(1, pageSize / recordSize);
+		this.memoryThreshold = memoryThreshold;
+	}
+
+	/**
+	 * Returns the number of bits of each vector.
+	 *
+	 * @return the width of the vectors
+	 */
+	public int getWidth() {
+		return width;
+	}
+
+	/**
+	 * Returns the number of 64-bit words of each vector.
+	 *
+	 * @return the number of words per vector
+	 */
+	public int getWords() {
+		return words;
+	}
+
+	/**
+	 * Returns the number of stored vectors.
+	 *
+	 * @return the number of stored vectors
+	 */
+	public long size() {
+		return size;
+	}
+
+	/**
+	 * Appends a vector.
+	 *
+	 * @param vector
+	 *            the vector, with no bit set at or above <code>width</code>
+	 * @return the index of the vector
+	 */
+	public long add(BigInteger vector) {
+		if (vector.signum() < 0 || vector.bitLength() > width) {
+			throw new IllegalArgumentException("Vector does not fit into " + width + " bits!");
+		}
+		long[] buffer = new long[words];
+		for (int i = 0; i < words; i++) {
+			buffer[i] = vector.shiftRight(i * 64).longValue();
+		}
+		return add(buffer);
+	}
+
+	/**
+	 * Appends a vector.
+	 *
+	 * @param vector
+	 *            the vector's words, least significant word first, with no
+	 *            bit set at or above <code>width</code>
+	 * @return the index of the vector
+	 */
+	public long add(long[] vector) {
+		if (vector.length != words) {
+			throw new IllegalArgumentException("Vector must have " + words + " words!");
+		}
+		int lastWordBits = width - (words - 1) * 64;
+		if (lastWordBits < 64 && vector[words - 1] >>> lastWordBits != 0) {
+			throw new IllegalArgumentException("Vector does not fit into " + width + " bits!");
+		}
+		if (size % recordsPerPage == 0) {
+			pages.add(allocatePage());
+		}
+		ByteBuffer page = pages.get(pages.size() - 1);
+		int offset = (int) (size % recordsPerPage) * recordSize;
+		for (int i = 0; i < words; i++) {
+			page.putLong(offset + i * 8, vector[i]);
+		}
+		return size++;
+	}
+
+	/**
+	 * Returns the vector at <code>index</code>.
+	 *
+	 * @param index
+	 *            index of the vector
+	 * @return the vector
+	 */
+	public BigInteger get(long index) {
+		long[] buffer = new long[words];
+		get(index, buffer);
+		return toBigInteger(buffer);
+	}
+
+	/**
+	 * Copies the vector at <code>index</code> into <code>result</code>.
+	 *
+	 * @param index
+	 *            index of the vector
+	 * @param result
+	 *            array of <code>getWords()</code> words
+	 */
+	public void get(long index, long[] result) {
+		ByteBuffer page = page(index);
+		int offset = (int) (index % recordsPerPage) * recordSize;
+		for (int i = 0; i < words; i++) {
+			result[i] = page.getLong(offset + i * 8);
+		}
+	}
+
+	/**
+	 * Returns the symmetric difference of two stored vectors.
+	 *
+	 * @param a
+	 *            index of the first vector
+	 * @param b
+	 *            index of the second vector
+	 * @return <code>get(a) xor get(b)</code>
+	 */
+	public BigInteger xor(long a, long b) {
+		long[] buffer = new long[words];
+		xor(a, b, buffer);
+		return toBigInteger(buffer);
+	}
+
+	/**
+	 * Writes the symmetric difference of two stored vectors into
+	 * <code>result</code>.
+	 *
+	 * @param a
+	 *            index of the first vector
+	 * @param b
+	 *            index of the second vector
+	 * @param result
+	 *            array of <code>getWords()</code> words
+	 */
+	public void xor(long a, long b, long[] result) {
+		ByteBuffer pageA = page(a);
+		ByteBuffer pageB = page(b);
+		int offsetA = (int) (a % recordsPerPage) * recordSize;
+		int offsetB = (int) (b % recordsPerPage) * recordSize;
+		for (int i = 0; i < words; i++) {
+			result[i] = pageA.getLong(offsetA + i * 8) ^ pageB.getLong(offsetB + i * 8);
+		}
+	}
+
+	/**
+	 * Returns the intersection of two stored vectors.
+	 *
+	 * @param a
+	 *            index of the first vector
+	 * @param b
+	 *            index of the second vector
+	 * @return <code>get(a) and get(b)</code>
+	 */
+	public BigInteger and(long a, long b) {
+		long[] buffer = new long[words];
+		and(a, b, buffer);
+		return toBigInteger(buffer);
+	}
+
+	/**
+	 * Writes the intersection of two stored vectors into <code>result</code>.
+	 *
+	 * @param a
+	 *            index of the first vector
+	 * @param b
+	 *            index of the second vector
+	 * @param result
+	 *            array of <code>getWords()</code> words
+	 */
+	public void and(long a, long b, long[] result) {
+		ByteBuffer pageA = page(a);
+		ByteBuffer pageB = page(b);
+		int offsetA = (int) (a % recordsPerPage) * recordSize;
+		int offsetB = (int) (b % recordsPerPage) * recordSize;
+		for (int i = 0; i < words; i++) {
+			result[i] = pageA.getLong(offsetA + i * 8) & pageB.getLong(offsetB + i * 8);
+		}
+	}
+
+	/**
+	 * Returns whether two stored vectors share at least one edge.
+	 *
+	 * @param a
+	 *            index of the first vector
+	 * @param b
+	 *            index of the second vector
+	 * @return <code>true</code> if <code>get(a) and get(b)</code> is not zero
+	 */
+	public boolean intersects(long a, long b) {
+		ByteBuffer pageA = page(a);
+		ByteBuffer pageB = page(b);
+		int offsetA = (int) (a % recordsPerPage) * recordSize;
+		int offsetB = (int) (b % recordsPerPage) * recordSize;
+		for (int i = 0; i < words; i++) {
+			if ((pageA.getLong(offsetA + i * 8) & pageB.getLong(offsetB + i * 8)) != 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Visits all stored vectors using several threads. Each thread visits a
+	 * contiguous range of pages in index order.
+	 *
+	 * @param visitor
+	 *            the <code>Visitor</code>, called concurrently
+	 * @param parallelism
+	 *            the number of threads to use
+	 */
+	public void scan(final Visitor visitor, int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("Parallelism must be at least 1!");
+		}
+		int pageCount = pages.size();
+		int chunkSize = Math.max(1, (pageCount + parallelism - 1) / parallelism);
+		List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+		for (int from = 0; from < pageCount; from += chunkSize) {
+			final long first = (long) from * recordsPerPage;
+			final long last = Math.min(size, (long) Math.min(pageCount, from + chunkSize) * recordsPerPage);
+			tasks.add(new Callable<Void>() {
+				@Override
+				public Void call() {
+					long[] buffer = new long[words];
+					for (long index = first; index < last; index++) {
+						get(index, buffer);
+						visitor.visit(index, buffer);
+					}
+					return null;
+				}
+			});
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+		try {
+			for (Future<Void> future : executor.invokeAll(tasks)) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Scan was interrupted", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Scan failed", e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Returns an <code>Iterator</code> over all stored vectors in index order.
+	 */
+	@Override
+	public Iterator<BigInteger> iterator() {
+		return new Iterator<BigInteger>() {
+			private long index;
+
+			@Override
+			public boolean hasNext() {
+				return index < size;
+			}
+
+			@Override
+			public BigInteger next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return get(index++);
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+
+	/**
+	 * Drops the pages and deletes the temporary file, if any. The memory of
+	 * direct and mapped pages is only returned once the pages are garbage
+	 * collected.
+	 */
+	@Override
+	public void close() throws IOException {
+		pages.clear();
+		size = 0;
+		memoryAllocated = 0;
+		if (randomAccessFile != null) {
+			randomAccessFile.close();
+			randomAccessFile = null;
+			fileSize = 0;
+		}
+		if (file != null) {
+			file.delete();
+			file = null;
+		}
+	}
+
+	private ByteBuffer page(long index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+		return pages.get((int) (index / recordsPerPage));
+	}
+
+	private ByteBuffer allocatePage() {
+		int pageSize = recordsPerPage * recordSize;
+		if (memoryAllocated + pageSize <= memoryThreshold) {
+			memoryAllocated += pageSize;
+			return ByteBuffer.allocateDirect(pageSize);
+		}
+
+		try {
+			if (randomAccessFile == null) {
+				file = File.createTempFile("incidence-vectors", ".bin");
+				randomAccessFile = new RandomAccessFile(file, "rw");
+				// Where an open file can be unlinked it disappears with the
+				// channel, otherwise close() deletes it
+				if (file.delete()) {
+					file = null;
+				}
+			}
+			ByteBuffer page = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, fileSize, pageSize);
+			fileSize += pageSize;
+			return page;
+		} catch (IOException e) {
+			throw new IllegalStateException("Could not map page of temporary file", e);
+		}
+	}
+
+	private BigInteger toBigInteger(long[] vector) {
+		byte[] bytes = new byte[vector.length * 8 + 1];
+		for (int i = 0; i < vector.length; i++) {
+			long word = vector[i];
+			for (int b = 0; b < 8; b++) {
+				bytes[bytes.length - 1 - i * 8 - b] = (byte) (word >>> (b * 8));
+			}
+		}
+		return new BigInteger(bytes);
+	}
+}
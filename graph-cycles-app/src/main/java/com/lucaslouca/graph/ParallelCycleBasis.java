@@ -0,0 +1,821 @@
+package com.lucaslouca.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Computes a fundamental cycle basis of a <code>Graph</code> using several
+ * threads.<br>
+ * <br>
+ *
+ * The computation runs in these phases, each split over the threads:
+ * <ol>
+ * <li>Vertices are numbered and the edges are packed into an adjacency array,
+ * whose offsets come from a prefix sum over the vertex degrees.</li>
+ * <li>Every vertex sorts its neighbors and drops duplicates, noting whether
+ * each edge exists in both directions.</li>
+ * <li>The components are found with a concurrent union-find. The parent
+ * array is an <code>AtomicIntegerArray</code> and roots are linked with CAS,
+ * always hanging the larger root below the smaller one so that no cycles can
+ * be formed.</li>
+ * <li>A BFS forest is grown from the root of every component at once. Each
+ * level of the BFS is split over the threads, which claim unvisited vertices
+ * with CAS. A BFS tree keeps the fundamental cycles short, an arbitrary
+ * spanning tree may turn them into paths as long as the graph.</li>
+ * <li>For each non-tree edge <code>(u,v)</code> the fundamental cycle
+ * <code>u -> lca(u,v) -> v -> u</code> is extracted, every thread using its
+ * own path buffers.</li>
+ * </ol>
+ *
+ * Ranges smaller than a minimum chunk size are not handed to other threads,
+ * and a phase with a single range runs on the calling thread. BFS frontiers
+ * use a much smaller minimum, so that the many small levels of graphs with a
+ * large diameter are still spread over the threads.<br>
+ * <br>
+ *
+ * Unlike the DFS based basis in <code>CycleUtil</code>, the basis covers all
+ * components of the graph and ignores edge directions. Self-loops and
+ * duplicate edges are ignored as well. The first three phases only depend on
+ * the graph; <code>getComponents()</code> and <code>isUndirected()</code> run
+ * just those, and <code>computeCycleBasis()</code> reuses their result.
+ *
+ * @see http://en.wikipedia.org/wiki/Cycle_basis
+ */
+public class ParallelCycleBasis {
+	private static final int UNVISITED = -1;
+	private static final int DEFAULT_MIN_CHUNK_SIZE = 4096;
+	// A BFS level costs little per vertex, but graphs with a large diameter
+	// have many levels with only a few hundred vertices each
+	private static final int DEFAULT_MIN_FRONTIER_CHUNK_SIZE = 64;
+
+	private final Graph graph;
+	private final int parallelism;
+	private final int minChunkSize;
+	private final int minFrontierChunkSize;
+
+	// Structure of the graph, computed once by analyze()
+	private int[] adjacencyStart;
+	private int[] adjacencyEnd;
+	private int[] adjacency;
+	private int[] roots;
+	private boolean undirected;
+
+	/**
+	 * Constructor for <code>ParallelCycleBasis</code> using one thread per
+	 * available processor.
+	 *
+	 * @param graph
+	 *            the <code>Graph</code> for which we want to compute the cycle
+	 *            basis.
+	 */
+	public ParallelCycleBasis(Graph graph) {
+		this(graph, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Constructor for <code>ParallelCycleBasis</code>.
+	 *
+	 * @param graph
+	 *            the <code>Graph</code> for which we want to compute the cycle
+	 *            basis.
+	 * @param parallelism
+	 *            the number of threads to use.
+	 *
+	 * @throws <code>IllegalArgumentException</code> if graph is
+	 *         <code>null</code> or parallelism is less than 1.
+	 */
+	public ParallelCycleBasis(Graph graph, int parallelism) {
+		this(graph, parallelism, DEFAULT_MIN_CHUNK_SIZE);
+	}
+
+	ParallelCycleBasis(Graph graph, int parallelism, int minChunkSize) {
+		if (graph == null) {
+			throw new IllegalArgumentException("Graph cannot be null!");
+		}
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("Parallelism must be at least 1!");
+		}
+		this.graph = graph;
+		this.parallelism = parallelism;
+		this.minChunkSize = Math.max(1, minChunkSize);
+		this.minFrontierChunkSize = Math.min(this.minChunkSize, DEFAULT_MIN_FRONTIER_CHUNK_SIZE);
+	}
+
+	/**
+	 * Returns the number of components of the graph, isolated vertices
+	 * included. The graph is analyzed on the first call, without extracting
+	 * any cycles, and the analysis is reused by
+	 * <code>computeCycleBasis()</code>.
+	 *
+	 * @return the number of components
+	 */
+	public int getComponents() {
+		analyze();
+		return roots.length;
+	}
+
+	/**
+	 * Returns whether every edge of the graph also exists in the opposite
+	 * direction. The graph is analyzed on the first call, without extracting
+	 * any cycles, and the analysis is reused by
+	 * <code>computeCycleBasis()</code>.
+	 *
+	 * @return <code>true</code> if the graph has no one-way edges
+	 */
+	public boolean isUndirected() {
+		analyze();
+		return undirected;
+	}
+
+	/**
+	 * Computes and returns a cycle basis of the <code>Graph</code>.
+	 *
+	 * @return A <code>List</code> of cycles (<code>List</code> of
+	 *         <code>Vertex</code>) that form the cycle basis. Each cycle lists
+	 *         its vertices in path order, the last vertex being connected to
+	 *         the first one. The cycles are ordered by the positions of the
+	 *         endpoints of their non-tree edge in the graph's vertex list.
+	 *
+	 * @throws <code>IllegalArgumentException</code> if an edge has an
+	 *         endpoint that is not a vertex of the graph.
+	 */
+	public List<List<Vertex>> computeCycleBasis() {
+		analyze();
+		final List<Vertex> vertices = graph.getVertices();
+		final int n = vertices.size();
+
+		ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+		try {
+			// Phase 4: BFS forest, one level at a time, starting from all roots
+			final AtomicIntegerArray parent = new AtomicIntegerArray(n);
+			int[] depth = new int[n];
+			List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+			for (final int[] range : chunks(n, minChunkSize)) {
+				tasks.add(new Callable<Void>() {
+					@Override
+					public Void call() {
+						for (int i = range[0]; i < range[1]; i++) {
+							parent.set(i, UNVISITED);
+						}
+						return null;
+					}
+				});
+			}
+			invokeAll(executor, tasks);
+			for (int root : roots) {
+				parent.set(root, root);
+			}
+			int[] frontier = roots;
+			while (frontier.length > 0) {
+				List<Callable<int[]>> levelTasks = new ArrayList<Callable<int[]>>();
+				for (int[] range : chunks(frontier.length, minFrontierChunkSize)) {
+					levelTasks.add(new LevelTask(adjacencyStart, adjacencyEnd, adjacency, frontier, parent, depth, range[0], range[1]));
+				}
+				frontier = concat(invokeAll(executor, levelTasks));
+			}
+
+			// Phase 5: fundamental cycle of every non-tree edge
+			List<Callable<long[]>> nonTreeTasks = new ArrayList<Callable<long[]>>();
+			for (int[] range : chunks(n, minChunkSize)) {
+				nonTreeTasks.add(new NonTreeEdgeTask(adjacencyStart, adjacencyEnd, adjacency, parent, range[0], range[1]));
+			}
+			List<long[]> parts = invokeAll(executor, nonTreeTasks);
+			int size = 0;
+			for (long[] part : parts) {
+				size += part.length;
+			}
+			long[] nonTreeEdges = new long[size];
+			int offset = 0;
+			for (long[] part : parts) {
+				System.arraycopy(part, 0, nonTreeEdges, offset, part.length);
+				offset += part.length;
+			}
+
+			List<List<Vertex>> cycles = new ArrayList<List<Vertex>>(Collections.<List<Vertex>> nCopies(nonTreeEdges.length, null));
+			tasks.clear();
+			for (int[] range : chunks(nonTreeEdges.length, minChunkSize)) {
+				tasks.add(new CycleTask(vertices, nonTreeEdges, parent, depth, cycles, range[0], range[1]));
+			}
+			invokeAll(executor, tasks);
+
+			return cycles;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Builds the deduplicated adjacency array, checks the edge directions and
+	 * finds a root of every component, unless already done.
+	 */
+	private void analyze() {
+		if (adjacency != null) {
+			return;
+		}
+		final List<Vertex> vertices = graph.getVertices();
+		final Edge[] edges = graph.getEdges().toArray(new Edge[graph.getEdges().size()]);
+		final int n = vertices.size();
+		if (n >= 1 << 30) {
+			throw new IllegalArgumentException("Graph has too many vertices!");
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+		try {
+			// Phase 1: vertex numbers, degrees and the adjacency array
+			ConcurrentHashMap<Vertex, Integer> index = new ConcurrentHashMap<Vertex, Integer>(Math.max(16, n * 4 / 3 + 1), 0.75f, parallelism);
+			List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+			for (int[] range : chunks(n, minChunkSize)) {
+				tasks.add(new IndexTask(vertices, index, range[0], range[1]));
+			}
+			invokeAll(executor, tasks);
+
+			int[] edgeSource = new int[edges.length];
+			int[] edgeDestination = new int[edges.length];
+			AtomicIntegerArray degree = new AtomicIntegerArray(n);
+			tasks.clear();
+			for (int[] range : chunks(edges.length, minChunkSize)) {
+				tasks.add(new EndpointTask(edges, index, edgeSource, edgeDestination, degree, range[0], range[1]));
+			}
+			invokeAll(executor, tasks);
+			index = null;
+
+			int[] adjacencyStart = new int[n + 1];
+			AtomicIntegerArray fill = new AtomicIntegerArray(n);
+			prefixSum(executor, degree, adjacencyStart, fill);
+			degree = null;
+
+			int[] adjacency = new int[adjacencyStart[n]];
+			tasks.clear();
+			for (int[] range : chunks(edges.length, minChunkSize)) {
+				tasks.add(new FillTask(edgeSource, edgeDestination, fill, adjacency, range[0], range[1]));
+			}
+			invokeAll(executor, tasks);
+			edgeSource = null;
+			edgeDestination = null;
+			fill = null;
+
+			// Phase 2: sort the neighbors of every vertex and drop duplicates
+			int[] adjacencyEnd = new int[n];
+			List<Callable<Boolean>> dedupeTasks = new ArrayList<Callable<Boolean>>();
+			for (int[] range : chunks(n, minChunkSize)) {
+				dedupeTasks.add(new DedupeTask(adjacencyStart, adjacencyEnd, adjacency, range[0], range[1]));
+			}
+			boolean undirected = true;
+			for (Boolean symmetric : invokeAll(executor, dedupeTasks)) {
+				undirected &= symmetric;
+			}
+
+			// Phase 3: components
+			AtomicIntegerArray unionFind = new AtomicIntegerArray(n);
+			for (int i = 0; i < n; i++) {
+				unionFind.set(i, i);
+			}
+			tasks.clear();
+			for (int[] range : chunks(n, minChunkSize)) {
+				tasks.add(new UnionTask(unionFind, adjacencyStart, adjacencyEnd, adjacency, range[0], range[1]));
+			}
+			invokeAll(executor, tasks);
+
+			List<Callable<int[]>> rootTasks = new ArrayList<Callable<int[]>>();
+			for (int[] range : chunks(n, minChunkSize)) {
+				rootTasks.add(new RootTask(unionFind, range[0], range[1]));
+			}
+			this.roots = concat(invokeAll(executor, rootTasks));
+			this.adjacencyStart = adjacencyStart;
+			this.adjacencyEnd = adjacencyEnd;
+			this.undirected = undirected;
+			this.adjacency = adjacency;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Splits <code>[0, size)</code> into contiguous ranges, a few per thread
+	 * so that uneven ranges even out, but none smaller than
+	 * <code>minSize</code>.
+	 *
+	 * @param size
+	 *            number of elements
+	 * @param minSize
+	 *            minimum number of elements per range
+	 * @return <code>List</code> of <code>{from, to}</code> ranges
+	 */
+	private List<int[]> chunks(int size, int minSize) {
+		List<int[]> chunks = new ArrayList<int[]>();
+		int count = parallelism == 1 ? 1 : parallelism * 4;
+		int chunkSize = Math.max(minSize, (size + count - 1) / count);
+		for (int from = 0; from < size; from += chunkSize) {
+			chunks.add(new int[] { from, Math.min(size, from + chunkSize) });
+		}
+		return chunks;
+	}
+
+	/**
+	 * Runs the tasks and returns their results in order. A single task runs on
+	 * the calling thread.
+	 */
+	private <T> List<T> invokeAll(ExecutorService executor, List<Callable<T>> tasks) {
+		try {
+			List<T> results = new ArrayList<T>();
+			if (tasks.size() == 1) {
+				results.add(tasks.get(0).call());
+				return results;
+			}
+			for (Future<T> future : executor.invokeAll(tasks)) {
+				results.add(future.get());
+			}
+			return results;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Cycle basis computation was interrupted", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IllegalArgumentException) {
+				throw (IllegalArgumentException) e.getCause();
+			}
+			throw new IllegalStateException("Cycle basis computation failed", e.getCause());
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new IllegalStateException("Cycle basis computation failed", e);
+		}
+	}
+
+	/**
+	 * Writes the exclusive prefix sum of <code>degree</code> into
+	 * <code>adjacencyStart</code> and <code>fill</code>. Every range sums its
+	 * degrees, the range totals are summed up on the calling thread and every
+	 * range then writes its offsets.
+	 */
+	private void prefixSum(ExecutorService executor, final AtomicIntegerArray degree, final int[] adjacencyStart, final AtomicIntegerArray fill) {
+		final int n = degree.length();
+		List<int[]> ranges = chunks(n, minChunkSize);
+
+		List<Callable<Long>> sumTasks = new ArrayList<Callable<Long>>();
+		for (final int[] range : ranges) {
+			sumTasks.add(new Callable<Long>() {
+				@Override
+				public Long call() {
+					long sum = 0;
+					for (int i = range[0]; i < range[1]; i++) {
+						sum += degree.get(i);
+					}
+					return sum;
+				}
+			});
+		}
+		List<Long> sums = invokeAll(executor, sumTasks);
+
+		List<Callable<Void>> offsetTasks = new ArrayList<Callable<Void>>();
+		long total = 0;
+		for (int r = 0; r < ranges.size(); r++) {
+			final int[] range = ranges.get(r);
+			final int rangeOffset = (int) total;
+			total += sums.get(r);
+			if (total > Integer.MAX_VALUE) {
+				throw new IllegalArgumentException("Graph has too many edges!");
+			}
+			offsetTasks.add(new Callable<Void>() {
+				@Override
+				public Void call() {
+					int offset = rangeOffset;
+					for (int i = range[0]; i < range[1]; i++) {
+						adjacencyStart[i] = offset;
+						fill.set(i, offset);
+						offset += degree.get(i);
+					}
+					return null;
+				}
+			});
+		}
+		invokeAll(executor, offsetTasks);
+		adjacencyStart[n] = (int) total;
+	}
+
+	private static int[] concat(List<int[]> parts) {
+		if (parts.size() == 1) {
+			return parts.get(0);
+		}
+		int size = 0;
+		for (int[] part : parts) {
+			size += part.length;
+		}
+		int[] result = new int[size];
+		int offset = 0;
+		for (int[] part : parts) {
+			System.arraycopy(part, 0, result, offset, part.length);
+			offset += part.length;
+		}
+		return result;
+	}
+
+	private static int[] push(int[] buffer, int position, int value) {
+		if (position == buffer.length) {
+			buffer = Arrays.copyOf(buffer, buffer.length * 2);
+		}
+		buffer[position] = value;
+		return buffer;
+	}
+
+	/**
+	 * Returns the root of <code>x</code>'s set, halving the path on the way.
+	 * Parents always have a smaller index than their children, so pointing a
+	 * vertex to its grandparent never creates a cycle, even when racing with
+	 * other threads.
+	 */
+	private static int find(AtomicIntegerArray unionFind, int x) {
+		int p = unionFind.get(x);
+		while (p != x) {
+			int grandParent = unionFind.get(p);
+			if (grandParent != p) {
+				unionFind.compareAndSet(x, p, grandParent);
+			}
+			x = grandParent;
+			p = unionFind.get(x);
+		}
+		return x;
+	}
+
+	/**
+	 * Numbers a range of vertices by their position in the vertex list.
+	 */
+	private static class IndexTask implements Callable<Void> {
+		private final List<Vertex> vertices;
+		private final ConcurrentHashMap<Vertex, Integer> index;
+		private final int from;
+		private final int to;
+
+		IndexTask(List<Vertex> vertices, ConcurrentHashMap<Vertex, Integer> index, int from, int to) {
+			this.vertices = vertices;
+			this.index = index;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		public Void call() {
+			for (int i = from; i < to; i++) {
+				index.put(vertices.get(i), i);
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Looks up the endpoints of a range of edges and counts the degrees,
+	 * self-loops excluded.
+	 */
+	private static class EndpointTask implements Callable<Void> {
+		private final Edge[] edges;
+		private final ConcurrentHashMap<Vertex, Integer> index;
+		private final int[] edgeSource;
+		private final int[] edgeDestination;
+		private final AtomicIntegerArray degree;
+		private final int from;
+		private final int to;
+
+		EndpointTask(Edge[] edges, ConcurrentHashMap<Vertex, Integer> index, int[] edgeSource, int[] edgeDestination, AtomicIntegerArray degree, int from,
+				int to) {
+			this.edges = edges;
+			this.index = index;
+			this.edgeSource = edgeSource;
+			this.edgeDestination = edgeDestination;
+			this.degree = degree;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		public Void call() {
+			for (int i = from; i < to; i++) {
+				Integer u = index.get(edges[i].getSource());
+				Integer v = index.get(edges[i].getDestination());
+				if (u == null || v == null) {
+					throw new IllegalArgumentException("Edge " + edges[i] + " has an endpoint that is not a vertex of the graph!");
+				}
+				edgeSource[i] = u;
+				edgeDestination[i] = v;
+				if (u.intValue() != v.intValue()) {
+					degree.incrementAndGet(u);
+					degree.incrementAndGet(v);
+				}
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Writes a range of edges into the adjacency array. An edge
+	 * <code>u -> v</code> is stored as <code>v &lt;&lt; 1 | 1</code> at
+	 * <code>u</code> and as <code>u &lt;&lt; 1</code> at <code>v</code>, so
+	 * that the lowest bit tells the direction.
+	 */
+	private static class FillTask implements Callable<Void> {
+		private final int[] edgeSource;
+		private final int[] edgeDestination;
+		private final AtomicIntegerArray fill;
+		private final int[] adjacency;
+		private final int from;
+		private final int to;
+
+		FillTask(int[] edgeSource, int[] edgeDestination, AtomicIntegerArray fill, int[] adjacency, int from, int to) {
+			this.edgeSource = edgeSource;
+			this.edgeDestination = edgeDestination;
+			this.fill = fill;
+			this.adjacency = adjacency;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		public Void call() {
+			for (int i = from; i < to; i++) {
+				int u = edgeSource[i];
+				int v = edgeDestination[i];
+				if (u != v) {
+					adjacency[fill.getAndIncrement(u)] = v << 1 | 1;
+					adjacency[fill.getAndIncrement(v)] = u << 1;
+				}
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Sorts the neighbors of a range of vertices, keeps every neighbor once and
+	 * returns whether all edges of the range exist in both directions.
+	 */
+	private static class DedupeTask implements Callable<Boolean> {
+		private final int[] adjacencyStart;
+		private final int[] adjacencyEnd;
+		private final int[] adjacency;
+		private final int from;
+		private final int to;
+
+		DedupeTask(int[] adjacencyStart, int[] adjacencyEnd, int[] adjacency, int from, int to) {
+			this.adjacencyStart = adjacencyStart;
+			this.adjacencyEnd = adjacencyEnd;
+			this.adjacency = adjacency;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		public Boolean call() {
+			boolean symmetric = true;
+			for (int u = from; u < to; u++) {
+				int start = adjacencyStart[u];
+				int end = adjacencyStart[u + 1];
+				Arrays.sort(adjacency, start, end);
+				int out = start;
+				int k = start;
+				while (k < end) {
+					int w = adjacency[k] >>> 1;
+					int directions = 0;
+					while (k < end && adjacency[k] >>> 1 == w) {
+						directions |= 1 << (adjacency[k] & 1);
+						k++;
+					}
+					if (directions != 3) {
+						symmetric = false;
+					}
+					adjacency[out++] = w;
+				}
+				adjacencyEnd[u] = out;
+			}
+			return symmetric;
+		}
+	}
+
+	/**
+	 * Unites every vertex of a range with its larger neighbors.
+	 */
+	private static class UnionTask implements Callable<Void> {
+		private final AtomicIntegerArray unionFind;
+		private final int[] adjacencyStart;
+		private final int[] adjacencyEnd;
+		private final int[] adjacency;
+		private final int from;
+		private final int to;
+
+		UnionTask(AtomicIntegerArray unionFind, int[] adjacencyStart, int[] adjacencyEnd, int[] adjacency, int from, int to) {
+			this.unionFind = unionFind;
+			this.adjacencyStart = adjacencyStart;
+			this.adjacencyEnd = adjacencyEnd;
+			this.adjacency = adjacency;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		public Void call() {
+			for (int x = from; x < to; x++) {
+				for (int k = adjacencyStart[x]; k < adjacencyEnd[x]; k++) {
+					if (adjacency[k] < x) {
+						continue;
+					}
+					int u = x;
+					int v = adjacency[k];
+					while (true) {
+						u = find(unionFind, u);
+						v = find(unionFind, v);
+						if (u == v) {
+							break;
+						}
+						// Hang the larger root below the smaller one
+						int child = Math.max(u, v);
+						int root = Math.min(u, v);
+						if (unionFind.compareAndSet(child, child, root)) {
+							break;
+						}
+					}
+				}
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the component roots of a range of vertices.
+	 */
+	private static class RootTask implements Callable<int[]> {
+		private final AtomicIntegerArray unionFind;
+		private final int from;
+		private final int to;
+
+		RootTask(AtomicIntegerArray unionFind, int from, int to) {
+			this.unionFind = unionFind;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		public int[] call() {
+			int[] roots = new int[16];
+			int size = 0;
+			for (int i = from; i < to; i++) {
+				if (find(unionFind, i) == i) {
+					roots = push(roots, size++, i);
+				}
+			}
+			return Arrays.copyOf(roots, size);
+		}
+	}
+
+	/**
+	 * Expands a range of the current BFS frontier. A vertex belongs to the
+	 * thread that first sets its parent.
+	 */
+	private static class LevelTask implements Callable<int[]> {
+		private final int[] adjacencyStart;
+		private final int[] adjacencyEnd;
+		private final int[] adjacency;
+		private final int[] frontier;
+		private final AtomicIntegerArray parent;
+		private final int[] depth;
+		private final int from;
+		private final int to;
+
+		LevelTask(int[] adjacencyStart, int[] adjacencyEnd, int[] adjacency, int[] frontier, AtomicIntegerArray parent, int[] depth, int from, int to) {
+			this.adjacencyStart = adjacencyStart;
+			this.adjacencyEnd = adjacencyEnd;
+			this.adjacency = adjacency;
+			this.frontier = frontier;
+			this.parent = parent;
+			this.depth = depth;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		public int[] call() {
+			int[] next = new int[16];
+			int size = 0;
+			for (int i = from; i < to; i++) {
+				int x = frontier[i];
+				for (int k = adjacencyStart[x]; k < adjacencyEnd[x]; k++) {
+					int y = adjacency[k];
+					if (parent.get(y) == UNVISITED && parent.compareAndSet(y, UNVISITED, x)) {
+						depth[y] = depth[x] + 1;
+						next = push(next, size++, y);
+					}
+				}
+			}
+			return Arrays.copyOf(next, size);
+		}
+	}
+
+	/**
+	 * Collects the non-tree edges <code>(u,w)</code>, <code>u &lt; w</code>,
+	 * of a range of vertices, packed as <code>u &lt;&lt; 32 | w</code>.
+	 */
+	private static class NonTreeEdgeTask implements Callable<long[]> {
+		private final int[] adjacencyStart;
+		private final int[] adjacencyEnd;
+		private final int[] adjacency;
+		private final AtomicIntegerArray parent;
+		private final int from;
+		private final int to;
+
+		NonTreeEdgeTask(int[] adjacencyStart, int[] adjacencyEnd, int[] adjacency, AtomicIntegerArray parent, int from, int to) {
+			this.adjacencyStart = adjacencyStart;
+			this.adjacencyEnd = adjacencyEnd;
+			this.adjacency = adjacency;
+			this.parent = parent;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		public long[] call() {
+			long[] edges = new long[16];
+			int size = 0;
+			for (int u = from; u < to; u++) {
+				for (int k = adjacencyStart[u]; k < adjacencyEnd[u]; k++) {
+					int w = adjacency[k];
+					if (w > u && parent.get(u) != w && parent.get(w) != u) {
+						if (size == edges.length) {
+							edges = Arrays.copyOf(edges, edges.length * 2);
+						}
+						edges[size++] = (long) u << 32 | w;
+					}
+				}
+			}
+			return Arrays.copyOf(edges, size);
+		}
+	}
+
+	/**
+	 * Extracts the fundamental cycles of a range of non-tree edges.
+	 */
+	private static class CycleTask implements Callable<Void> {
+		private final List<Vertex> vertices;
+		private final long[] nonTreeEdges;
+		private final AtomicIntegerArray parent;
+		private final int[] depth;
+		private final List<List<Vertex>> cycles;
+		private final int from;
+		private final int to;
+
+		// Path buffers, reused for all cycles of this task
+		private int[] left = new int[16];
+		private int[] right = new int[16];
+
+		CycleTask(List<Vertex> vertices, long[] nonTreeEdges, AtomicIntegerArray parent, int[] depth, List<List<Vertex>> cycles, int from, int to) {
+			this.vertices = vertices;
+			this.nonTreeEdges = nonTreeEdges;
+			this.parent = parent;
+			this.depth = depth;
+			this.cycles = cycles;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		public Void call() {
+			for (int i = from; i < to; i++) {
+				int u = (int) (nonTreeEdges[i] >>> 32);
+				int v = (int) nonTreeEdges[i];
+				int leftSize = 0;
+				int rightSize = 0;
+
+				// Climb from both endpoints until they meet at their lowest common ancestor
+				while (depth[u] > depth[v]) {
+					left = push(left, leftSize++, u);
+					u = parent.get(u);
+				}
+				while (depth[v] > depth[u]) {
+					right = push(right, rightSize++, v);
+					v = parent.get(v);
+				}
+				while (u != v) {
+					left = push(left, leftSize++, u);
+					right = push(right, rightSize++, v);
+					u = parent.get(u);
+					v = parent.get(v);
+				}
+				left = push(left, leftSize++, u);
+
+				List<Vertex> cycle = new ArrayList<Vertex>(leftSize + rightSize);
+				for (int k = 0; k < leftSize; k++) {
+					cycle.add(vertices.get(left[k]));
+				}
+				for (int k = rightSize - 1; k >= 0; k--) {
+					cycle.add(vertices.get(right[k]));
+				}
+				// Distinct indices of an ArrayList may be set concurrently
+				cycles.set(i, cycle);
+			}
+			return null;
+		}
+	}
+}
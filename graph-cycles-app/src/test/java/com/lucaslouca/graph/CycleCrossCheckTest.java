@@ -0,0 +1,360 @@
+package com.lucaslouca.graph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * Cross-checks the parallel cycle basis and the off-heap cycle enumeration
+ * against the original <code>CycleUtil</code> on small seeded graphs, and
+ * against closed-form counts on larger ones.
+ */
+public class CycleCrossCheckTest {
+
+	@Test
+	public void testGridsAgreeWithCycleUtil() throws Exception {
+		for (int rows = 2; rows <= 4; rows++) {
+			for (int columns = 2; columns <= 4; columns++) {
+				assertEnginesAgree(GraphGenerator.grid(rows, columns));
+			}
+		}
+	}
+
+	@Test
+	public void testRandomPlanarGraphsAgreeWithCycleUtil() throws Exception {
+		for (long seed = 0; seed < 20; seed++) {
+			assertEnginesAgree(GraphGenerator.randomPlanar(3, 4, 0.5, seed));
+		}
+	}
+
+	@Test
+	public void testCompleteGraphsAgreeWithCycleUtil() throws Exception {
+		for (int n = 3; n <= 6; n++) {
+			assertEnginesAgree(GraphGenerator.complete(n));
+		}
+	}
+
+	@Test
+	public void testWheelsAgreeWithCycleUtil() throws Exception {
+		for (int n = 3; n <= 10; n++) {
+			assertEnginesAgree(GraphGenerator.wheel(n));
+		}
+	}
+
+	@Test
+	public void testDisconnectedGraphsAgreeWithCycleUtil() throws Exception {
+		for (long seed = 0; seed < 20; seed++) {
+			assertEnginesAgree(GraphGenerator.randomComponents(3, 2, 3, 0.5, seed));
+		}
+	}
+
+	@Test
+	public void testRandomDirectedGraphsAgreeWithCycleUtil() throws Exception {
+		for (long seed = 0; seed < 20; seed++) {
+			assertEnginesAgree(GraphGenerator.randomDirected(8, 0.5, seed));
+		}
+	}
+
+	@Test
+	public void testRandomDirectedGraphsHaveCyclomaticBasis() {
+		for (long seed = 0; seed < 20; seed++) {
+			Graph g = GraphGenerator.randomDirected(30, 0.2, seed);
+			assertValidBasis(g, new ParallelCycleBasis(g, 1).computeCycleBasis());
+			assertValidBasis(g, new ParallelCycleBasis(g, 4, 1).computeCycleBasis());
+		}
+	}
+
+	@Test
+	public void testSimpleCyclesOfCompleteGraphs() throws Exception {
+		// Number of simple cycles in K_n: sum over k = 3..n of C(n,k) (k-1)! / 2
+		int[] expected = { 0, 0, 0, 1, 7, 37, 197, 1172 };
+		for (int n = 3; n <= 7; n++) {
+			Graph g = GraphGenerator.complete(n);
+			assertEquals(expected[n], countSimpleCycles(g));
+		}
+	}
+
+	@Test
+	public void testSimpleCyclesOfWheels() throws Exception {
+		// Number of simple cycles in a wheel with n rim vertices: n^2 - n + 1
+		for (int n = 3; n <= 14; n++) {
+			Graph g = GraphGenerator.wheel(n);
+			assertEquals(n * n - n + 1, countSimpleCycles(g));
+		}
+	}
+
+	@Test
+	public void testCycleSpaceOfGrids() throws Exception {
+		// The cycle space of an r x c grid has 2^((r-1)(c-1)) elements
+		int[][] sizes = { { 5, 5 }, { 4, 6 }, { 3, 9 }, { 5, 6 } };
+		for (int[] size : sizes) {
+			Graph g = GraphGenerator.grid(size[0], size[1]);
+			IncidenceVectorStore store = new CycleUtil(g, 4).listAllCycleVectors(1 << 20);
+			try {
+				assertEquals((1L << ((size[0] - 1) * (size[1] - 1))) - 1, store.size());
+			} finally {
+				store.close();
+			}
+		}
+	}
+
+	@Test
+	public void testLargeGraphsHaveCyclomaticBasis() {
+		Graph[] graphs = { GraphGenerator.grid(60, 80), GraphGenerator.randomPlanar(80, 80, 0.3, 42), GraphGenerator.complete(150),
+				GraphGenerator.wheel(50000), GraphGenerator.randomDirected(2000, 0.01, 7) };
+		for (Graph g : graphs) {
+			assertValidBasis(g, new ParallelCycleBasis(g, 8).computeCycleBasis());
+		}
+	}
+
+	@Test
+	public void testRankOfDependentCycles() {
+		Graph g = GraphGenerator.grid(4, 4);
+		List<List<Vertex>> cycles = new ParallelCycleBasis(g, 1).computeCycleBasis();
+		assertEquals(9, rank(g, cycles));
+		cycles.set(1, cycles.get(0));
+		assertEquals(8, rank(g, cycles));
+	}
+
+	/**
+	 * Asserts that <code>CycleUtil</code> with one and with several threads
+	 * and the off-heap enumeration all produce the same set of cycles.<br>
+	 * <br>
+	 * 
+	 * The single-threaded <code>CycleUtil</code> is the reference. Its DFS
+	 * basis only covers the component of the first vertex and follows edge
+	 * directions, so only for connected undirected graphs its cycles are
+	 * expected to span the whole cycle space, and only then
+	 * <code>CycleUtil</code> uses the parallel basis.
+	 * <code>ParallelCycleBasis</code> always covers all components and ignores
+	 * directions, so it is checked directly, one component at a time.
+	 */
+	private void assertEnginesAgree(Graph g) throws Exception {
+		Set<Set<Edge>> expected = edgeSets(new CycleUtil(g).listAllCycles());
+		if (GraphGenerator.components(g) == 1 && GraphGenerator.isUndirected(g)) {
+			assertEquals((1L << GraphGenerator.cyclomaticNumber(g)) - 1, expected.size());
+		}
+
+		assertEquals(expected, edgeSets(new CycleUtil(g, 4).listAllCycles()));
+		// A chunk size of 1 spreads even small graphs over the threads
+		List<List<Vertex>> basis = new ParallelCycleBasis(g, 4, 1).computeCycleBasis();
+		assertValidBasis(g, basis);
+		assertSameSpanPerComponent(g, basis);
+
+		CycleUtil cycleUtil = new CycleUtil(g, 4);
+		IncidenceVectorStore store = cycleUtil.listAllCycleVectors(0);
+		try {
+			Set<Set<Edge>> actual = new HashSet<Set<Edge>>();
+			for (BigInteger vector : store) {
+				actual.add(new HashSet<Edge>(cycleUtil.cycleFromIncidenceVector(vector).getEdges()));
+			}
+			assertEquals(expected.size(), store.size());
+			assertEquals(expected, actual);
+		} finally {
+			store.close();
+		}
+	}
+
+	/**
+	 * Asserts that every cycle of <code>basis</code> is a closed path of
+	 * distinct vertices and that the cycles are linearly independent over
+	 * GF(2), as many as the cyclomatic number of <code>g</code>.
+	 */
+	private void assertValidBasis(Graph g, List<List<Vertex>> basis) {
+		assertEquals(GraphGenerator.cyclomaticNumber(g), basis.size());
+
+		Set<Edge> edges = new HashSet<Edge>(g.getEdges());
+		for (List<Vertex> cycle : basis) {
+			assertTrue(cycle.size() >= 3);
+			assertEquals(cycle.size(), new HashSet<Vertex>(cycle).size());
+			for (int i = 0; i < cycle.size(); i++) {
+				Vertex a = cycle.get(i);
+				Vertex b = cycle.get((i + 1) % cycle.size());
+				assertTrue(edges.contains(new Edge(a, b)) || edges.contains(new Edge(b, a)));
+			}
+		}
+		assertEquals(GraphGenerator.cyclomaticNumber(g), rank(g, basis));
+	}
+
+	/**
+	 * Returns the rank over GF(2) of the edge sets of <code>cycles</code>, by
+	 * Gaussian elimination. Rows are sorted arrays of undirected edge numbers,
+	 * which stay short for fundamental cycles, and the pivot of a row is its
+	 * smallest edge number.
+	 */
+	private int rank(Graph g, List<List<Vertex>> cycles) {
+		Map<Vertex, Integer> vertexIndex = vertexIndex(g);
+		Map<Long, Integer> edgeIndex = new HashMap<Long, Integer>();
+		Map<Integer, int[]> pivots = new HashMap<Integer, int[]>();
+		for (List<Vertex> cycle : cycles) {
+			int[] row = new int[cycle.size()];
+			for (int i = 0; i < cycle.size(); i++) {
+				long key = edgeKey(vertexIndex, cycle.get(i), cycle.get((i + 1) % cycle.size()));
+				Integer e = edgeIndex.get(key);
+				if (e == null) {
+					e = edgeIndex.size();
+					edgeIndex.put(key, e);
+				}
+				row[i] = e;
+			}
+			Arrays.sort(row);
+
+			int[] pivotRow;
+			while (row.length > 0 && (pivotRow = pivots.get(row[0])) != null) {
+				row = symmetricDifference(row, pivotRow);
+			}
+			if (row.length > 0) {
+				pivots.put(row[0], row);
+			}
+		}
+		return pivots.size();
+	}
+
+	private int[] symmetricDifference(int[] a, int[] b) {
+		int[] result = new int[a.length + b.length];
+		int i = 0;
+		int j = 0;
+		int size = 0;
+		while (i < a.length || j < b.length) {
+			if (j == b.length || (i < a.length && a[i] < b[j])) {
+				result[size++] = a[i++];
+			} else if (i == a.length || b[j] < a[i]) {
+				result[size++] = b[j++];
+			} else {
+				i++;
+				j++;
+			}
+		}
+		return Arrays.copyOf(result, size);
+	}
+
+	/**
+	 * Asserts that, for every component of the underlying undirected graph,
+	 * the cycles of <code>basis</code> in that component span the same cycles
+	 * as <code>CycleUtil</code> finds in the component on its own.
+	 */
+	private void assertSameSpanPerComponent(Graph g, List<List<Vertex>> basis) {
+		Map<Vertex, Integer> vertexIndex = vertexIndex(g);
+		List<Graph> components = GraphGenerator.undirectedComponents(g);
+		Map<Vertex, Integer> componentOf = new HashMap<Vertex, Integer>();
+		List<List<BigInteger>> basisVectors = new ArrayList<List<BigInteger>>();
+		for (int c = 0; c < components.size(); c++) {
+			for (Vertex v : components.get(c).getVertices()) {
+				componentOf.put(v, c);
+			}
+			basisVectors.add(new ArrayList<BigInteger>());
+		}
+		for (List<Vertex> cycle : basis) {
+			BigInteger vector = BigInteger.ZERO;
+			for (int i = 0; i < cycle.size(); i++) {
+				vector = vector.setBit(edgeBit(vertexIndex, cycle.get(i), cycle.get((i + 1) % cycle.size())));
+			}
+			basisVectors.get(componentOf.get(cycle.get(0))).add(vector);
+		}
+
+		for (int c = 0; c < components.size(); c++) {
+			Set<BigInteger> expected = new HashSet<BigInteger>();
+			for (Graph cycle : new CycleUtil(components.get(c)).listAllCycles()) {
+				BigInteger vector = BigInteger.ZERO;
+				for (Edge e : cycle.getEdges()) {
+					vector = vector.setBit(edgeBit(vertexIndex, e.getSource(), e.getDestination()));
+				}
+				expected.add(vector);
+			}
+
+			// Gray code walk over all combinations of the component's cycles
+			List<BigInteger> vectors = basisVectors.get(c);
+			Set<BigInteger> span = new HashSet<BigInteger>();
+			BigInteger current = BigInteger.ZERO;
+			for (long step = 1; step < 1L << vectors.size(); step++) {
+				current = current.xor(vectors.get(Long.numberOfTrailingZeros(step)));
+				span.add(current);
+			}
+			assertEquals((1L << vectors.size()) - 1, span.size());
+			assertEquals(expected, span);
+		}
+	}
+
+	private Map<Vertex, Integer> vertexIndex(Graph g) {
+		Map<Vertex, Integer> index = new HashMap<Vertex, Integer>();
+		for (int i = 0; i < g.getVertices().size(); i++) {
+			index.put(g.getVertices().get(i), i);
+		}
+		return index;
+	}
+
+	/**
+	 * Returns a key of the undirected edge between <code>a</code> and
+	 * <code>b</code>.
+	 */
+	private long edgeKey(Map<Vertex, Integer> vertexIndex, Vertex a, Vertex b) {
+		int u = vertexIndex.get(a);
+		int v = vertexIndex.get(b);
+		return ((long) Math.min(u, v) << 32) | Math.max(u, v);
+	}
+
+	/**
+	 * Returns the bit of the undirected edge between <code>a</code> and
+	 * <code>b</code>, for graphs small enough to number the vertex pairs.
+	 */
+	private int edgeBit(Map<Vertex, Integer> vertexIndex, Vertex a, Vertex b) {
+		int u = vertexIndex.get(a);
+		int v = vertexIndex.get(b);
+		return Math.min(u, v) * vertexIndex.size() + Math.max(u, v);
+	}
+
+	/**
+	 * Enumerates the cycle space of <code>g</code> and counts the elements that
+	 * are simple cycles, i.e. connected with every vertex having degree two.
+	 */
+	private long countSimpleCycles(Graph g) throws Exception {
+		CycleUtil cycleUtil = new CycleUtil(g, 4);
+		IncidenceVectorStore store = cycleUtil.listAllCycleVectors(1 << 20);
+		try {
+			long count = 0;
+			for (BigInteger vector : store) {
+				if (isSimpleCycle(cycleUtil.cycleFromIncidenceVector(vector))) {
+					count++;
+				}
+			}
+			return count;
+		} finally {
+			store.close();
+		}
+	}
+
+	private boolean isSimpleCycle(Graph cycle) {
+		// Both directions of an edge are part of the cycle, so the number of
+		// outgoing edges of a vertex is its degree
+		Map<Vertex, Integer> degree = new HashMap<Vertex, Integer>();
+		for (Edge e : cycle.getEdges()) {
+			Integer d = degree.get(e.getSource());
+			degree.put(e.getSource(), d == null ? 1 : d + 1);
+		}
+		for (Integer d : degree.values()) {
+			if (d != 2) {
+				return false;
+			}
+		}
+		return GraphGenerator.cyclomaticNumber(cycle) == 1;
+	}
+
+	private Set<Set<Edge>> edgeSets(List<Graph> cycles) {
+		Set<Set<Edge>> edgeSets = new HashSet<Set<Edge>>();
+		for (Graph cycle : cycles) {
+			edgeSets.add(new HashSet<Edge>(cycle.getEdges()));
+		}
+		return edgeSets;
+	}
+
+}
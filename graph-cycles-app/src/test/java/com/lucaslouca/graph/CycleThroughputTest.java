@@ -0,0 +1,112 @@
+package com.lucaslouca.graph;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.InputStream;
+import java.util.Properties;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+ * Timed scale tests. Each test measures the best throughput out of a few runs
+ * and fails when it drops below the baseline recorded in
+ * <code>throughput-baseline.properties</code>, scaled by the
+ * <code>tolerance</code> given there. Baselines and tolerances are recorded
+ * per number of available processors, tests without a baseline for the
+ * current machine are skipped.
+ */
+@Category(PerformanceTests.class)
+public class CycleThroughputTest {
+	private static final int THREADS = 4;
+	private static final int RUNS = 10;
+
+	private static Properties baseline;
+
+	@BeforeClass
+	public static void loadBaseline() throws Exception {
+		InputStream in = CycleThroughputTest.class.getResourceAsStream("/throughput-baseline.properties");
+		assertNotNull("throughput-baseline.properties not found", in);
+		try {
+			baseline = new Properties();
+			baseline.load(in);
+		} finally {
+			in.close();
+		}
+	}
+
+	@Test
+	public void testParallelCycleBasisThroughput() {
+		Graph g = GraphGenerator.randomPlanar(400, 400, 0.5, 1);
+		int edges = g.getEdges().size() / 2;
+
+		double seconds = bestTimeOfCycleBasis(g, THREADS);
+		assertAboveBaseline("parallelCycleBasis.edgesPerSecond", edges / seconds);
+	}
+
+	@Test
+	public void testParallelCycleBasisSpeedup() {
+		Graph g = GraphGenerator.randomPlanar(400, 400, 0.5, 1);
+
+		double single = bestTimeOfCycleBasis(g, 1);
+		double parallel = bestTimeOfCycleBasis(g, THREADS);
+		System.out.println(String.format("parallelCycleBasis: 1 thread %.0f ms, %d threads %.0f ms", single * 1000, THREADS, parallel * 1000));
+		assertAboveBaseline("parallelCycleBasis.speedup", single / parallel);
+	}
+
+	@Test
+	public void testAllCycleVectorsThroughput() throws Exception {
+		// 20 basis cycles, so 2^20 - 1 stored vectors
+		Graph g = GraphGenerator.grid(5, 6);
+		CycleUtil cycleUtil = new CycleUtil(g, THREADS);
+
+		double best = 0;
+		for (int run = 0; run <= 3 * RUNS; run++) {
+			long start = System.nanoTime();
+			IncidenceVectorStore store = cycleUtil.listAllCycleVectors(16 << 20);
+			try {
+				double vectorsPerSecond = store.size() / ((System.nanoTime() - start) / 1e9);
+				// The first run only warms up the JIT
+				if (run > 0) {
+					best = Math.max(best, vectorsPerSecond);
+				}
+			} finally {
+				store.close();
+			}
+		}
+		assertAboveBaseline("allCycleVectors.vectorsPerSecond", best);
+	}
+
+	/**
+	 * Returns the best time in seconds of a few runs of
+	 * <code>computeCycleBasis()</code>, after one warm-up run.
+	 */
+	private double bestTimeOfCycleBasis(Graph g, int threads) {
+		double best = Double.MAX_VALUE;
+		for (int run = 0; run <= RUNS; run++) {
+			long start = System.nanoTime();
+			new ParallelCycleBasis(g, threads).computeCycleBasis();
+			double seconds = (System.nanoTime() - start) / 1e9;
+			if (run > 0) {
+				best = Math.min(best, seconds);
+			}
+		}
+		return best;
+	}
+
+	private void assertAboveBaseline(String key, double measured) {
+		String prefix = "cores." + Runtime.getRuntime().availableProcessors() + ".";
+		String coresKey = prefix + key;
+		System.out.println(String.format("%s: %.2f", coresKey, measured));
+		String value = baseline.getProperty(coresKey);
+		assumeTrue("No baseline " + coresKey + " recorded", value != null);
+
+		double expected = Double.parseDouble(value);
+		double tolerance = Double.parseDouble(baseline.getProperty(prefix + "tolerance"));
+		assertTrue(String.format("%s dropped to %.2f, baseline is %.2f", coresKey, measured, expected), measured >= expected * tolerance);
+	}
+
+}
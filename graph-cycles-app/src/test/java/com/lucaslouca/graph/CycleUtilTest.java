@@ -97,4 +97,80 @@ public class CycleUtilTest {
 		assertEquals(0, cycles.size());
 	}
 
+	@Test
+	public void testNumberOfAllCyclesParallel1() {
+		Graph g = new Graph();
+		g.addBidirectionalEdge(new Point(0, 0), new Point(0, 1));
+		g.addBidirectionalEdge(new Point(0, 1), new Point(0, 2));
+		g.addBidirectionalEdge(new Point(0, 1), new Point(1, 1));
+		g.addBidirectionalEdge(new Point(0, 2), new Point(1, 2));
+		g.addBidirectionalEdge(new Point(1, 2), new Point(1, 1));
+		g.addBidirectionalEdge(new Point(1, 1), new Point(1, 0));
+		g.addBidirectionalEdge(new Point(1, 0), new Point(0, 0));
+		g.addBidirectionalEdge(new Point(1, 2), new Point(2, 2));
+		g.addBidirectionalEdge(new Point(2, 2), new Point(2, 1));
+		g.addBidirectionalEdge(new Point(2, 1), new Point(1, 1));
+		g.addBidirectionalEdge(new Point(2, 1), new Point(2, 0));
+		g.addBidirectionalEdge(new Point(2, 0), new Point(1, 0));
+
+		CycleUtil cycleUtil = new CycleUtil(g, 4);
+		List<Graph> cycles = cycleUtil.listAllCycles();
+		assertEquals(15, cycles.size());
+	}
+
+	@Test
+	public void testNumberOfAllCyclesParallel2() {
+		Graph g = new Graph();
+		g.addBidirectionalEdge(new Point(0, 0), new Point(0, 0));
+		g.addBidirectionalEdge(new Point(0, 0), new Point(0, 1));
+		g.addBidirectionalEdge(new Point(0, 1), new Point(3, 1));
+		g.addBidirectionalEdge(new Point(3, 1), new Point(3, 0));
+		g.addBidirectionalEdge(new Point(3, 0), new Point(0, 99));
+
+		CycleUtil cycleUtil = new CycleUtil(g, 4);
+		List<Graph> cycles = cycleUtil.listAllCycles();
+		assertEquals(0, cycles.size());
+	}
+
+	@Test
+	public void testParallelCycleBasisOfDisconnectedGraph() {
+		Graph g = new Graph();
+		g.addBidirectionalEdge(new Point(0, 0), new Point(0, 1));
+		g.addBidirectionalEdge(new Point(0, 1), new Point(1, 1));
+		g.addBidirectionalEdge(new Point(1, 1), new Point(0, 0));
+		g.addBidirectionalEdge(new Point(5, 5), new Point(5, 6));
+		g.addBidirectionalEdge(new Point(5, 6), new Point(6, 6));
+		g.addBidirectionalEdge(new Point(6, 6), new Point(6, 5));
+		g.addBidirectionalEdge(new Point(6, 5), new Point(5, 5));
+
+		List<List<Vertex>> basis = new ParallelCycleBasis(g, 4).computeCycleBasis();
+		assertEquals(2, basis.size());
+		assertEquals(3, basis.get(0).size());
+		assertEquals(4, basis.get(1).size());
+	}
+
+	@Test
+	public void testNumberOfAllCyclesOfDisconnectedGraphDoesNotDependOnParallelism() {
+		Graph g = new Graph();
+		g.addBidirectionalEdge(new Point(0, 0), new Point(0, 1));
+		g.addBidirectionalEdge(new Point(0, 1), new Point(1, 1));
+		g.addBidirectionalEdge(new Point(1, 1), new Point(0, 0));
+		g.addBidirectionalEdge(new Point(5, 5), new Point(5, 6));
+		g.addBidirectionalEdge(new Point(5, 6), new Point(6, 6));
+		g.addBidirectionalEdge(new Point(6, 6), new Point(6, 5));
+		g.addBidirectionalEdge(new Point(6, 5), new Point(5, 5));
+
+		assertEquals(new CycleUtil(g).listAllCycles().size(), new CycleUtil(g, 4).listAllCycles().size());
+	}
+
+	@Test
+	public void testEmptyGraph() {
+		assertEquals(0, new CycleUtil(new Graph()).listAllCycles().size());
+	}
+
+	@Test
+	public void testEmptyGraphParallel() {
+		assertEquals(0, new CycleUtil(new Graph(), 4).listAllCycles().size());
+	}
+
 }
@@ -0,0 +1,303 @@
+package com.lucaslouca.graph;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Seeded generators for test graphs. Vertices are created directly instead of
+ * through <code>Graph.addBidirectionalEdge</code>, which looks up every vertex
+ * in a list and would make large graphs quadratic to build.
+ */
+public class GraphGenerator {
+
+	private GraphGenerator() {
+	}
+
+	/**
+	 * Grid of <code>rows</code> x <code>columns</code> vertices.
+	 */
+	public static Graph grid(int rows, int columns) {
+		Vertex[][] v = gridVertices(rows, columns);
+		List<Edge> edges = new ArrayList<Edge>();
+		for (int r = 0; r < rows; r++) {
+			for (int c = 0; c < columns; c++) {
+				if (c + 1 < columns) {
+					addBidirectionalEdge(edges, v[r][c], v[r][c + 1]);
+				}
+				if (r + 1 < rows) {
+					addBidirectionalEdge(edges, v[r][c], v[r + 1][c]);
+				}
+			}
+		}
+		return new Graph(flatten(v), edges);
+	}
+
+	/**
+	 * Random planar graph: a grid of <code>rows</code> x <code>columns</code>
+	 * vertices where each cell gets a diagonal in a random direction with
+	 * probability <code>p</code>.
+	 */
+	public static Graph randomPlanar(int rows, int columns, double p, long seed) {
+		Random random = new Random(seed);
+		Graph g = grid(rows, columns);
+		List<Vertex> vertices = g.getVertices();
+		for (int r = 0; r + 1 < rows; r++) {
+			for (int c = 0; c + 1 < columns; c++) {
+				if (random.nextDouble() < p) {
+					if (random.nextBoolean()) {
+						addBidirectionalEdge(g.getEdges(), vertices.get(r * columns + c), vertices.get((r + 1) * columns + c + 1));
+					} else {
+						addBidirectionalEdge(g.getEdges(), vertices.get(r * columns + c + 1), vertices.get((r + 1) * columns + c));
+					}
+				}
+			}
+		}
+		return g;
+	}
+
+	/**
+	 * Graph of <code>count</code> separate random planar graphs, each a grid
+	 * of <code>rows</code> x <code>columns</code> vertices with diagonals added
+	 * with probability <code>p</code>, followed by one isolated vertex.
+	 */
+	public static Graph randomComponents(int count, int rows, int columns, double p, long seed) {
+		Random random = new Random(seed);
+		List<Vertex> vertices = new ArrayList<Vertex>();
+		List<Edge> edges = new ArrayList<Edge>();
+		for (int i = 0; i < count; i++) {
+			int x = i * (columns + 1);
+			Vertex[][] v = new Vertex[rows][columns];
+			for (int r = 0; r < rows; r++) {
+				for (int c = 0; c < columns; c++) {
+					v[r][c] = vertex(x + c, r);
+					vertices.add(v[r][c]);
+				}
+			}
+			for (int r = 0; r < rows; r++) {
+				for (int c = 0; c < columns; c++) {
+					if (c + 1 < columns) {
+						addBidirectionalEdge(edges, v[r][c], v[r][c + 1]);
+					}
+					if (r + 1 < rows) {
+						addBidirectionalEdge(edges, v[r][c], v[r + 1][c]);
+					}
+					if (r + 1 < rows && c + 1 < columns && random.nextDouble() < p) {
+						addBidirectionalEdge(edges, v[r][c], v[r + 1][c + 1]);
+					}
+				}
+			}
+		}
+		vertices.add(vertex(count * (columns + 1), 0));
+		return new Graph(vertices, edges);
+	}
+
+	/**
+	 * Complete graph K_n.
+	 */
+	public static Graph complete(int n) {
+		List<Vertex> vertices = lineVertices(n, 0);
+		List<Edge> edges = new ArrayList<Edge>();
+		for (int i = 0; i < n; i++) {
+			for (int j = i + 1; j < n; j++) {
+				addBidirectionalEdge(edges, vertices.get(i), vertices.get(j));
+			}
+		}
+		return new Graph(vertices, edges);
+	}
+
+	/**
+	 * Wheel with a hub and <code>n</code> rim vertices.
+	 */
+	public static Graph wheel(int n) {
+		List<Vertex> vertices = new ArrayList<Vertex>();
+		Vertex hub = vertex(0, 0);
+		vertices.add(hub);
+		List<Vertex> rim = lineVertices(n, 1);
+		vertices.addAll(rim);
+		List<Edge> edges = new ArrayList<Edge>();
+		for (int i = 0; i < n; i++) {
+			addBidirectionalEdge(edges, hub, rim.get(i));
+			addBidirectionalEdge(edges, rim.get(i), rim.get((i + 1) % n));
+		}
+		return new Graph(vertices, edges);
+	}
+
+	/**
+	 * Random directed graph on <code>n</code> vertices. Every unordered pair
+	 * of vertices is connected with probability <code>p</code> by a single
+	 * edge in a random direction.
+	 */
+	public static Graph randomDirected(int n, double p, long seed) {
+		Random random = new Random(seed);
+		List<Vertex> vertices = lineVertices(n, 0);
+		List<Edge> edges = new ArrayList<Edge>();
+		for (int i = 0; i < n; i++) {
+			for (int j = i + 1; j < n; j++) {
+				if (random.nextDouble() < p) {
+					if (random.nextBoolean()) {
+						edges.add(new Edge(vertices.get(i), vertices.get(j)));
+					} else {
+						edges.add(new Edge(vertices.get(j), vertices.get(i)));
+					}
+				}
+			}
+		}
+		return new Graph(vertices, edges);
+	}
+
+	/**
+	 * Returns the cyclomatic number <code>|E| - |V| + C</code> of the
+	 * underlying undirected graph, ignoring self-loops and edges that appear
+	 * more than once. That is the size of every cycle basis.
+	 */
+	public static int cyclomaticNumber(Graph g) {
+		return cyclomaticNumberAndComponents(g)[0];
+	}
+
+	/**
+	 * Returns the number of components of the underlying undirected graph,
+	 * isolated vertices included.
+	 */
+	public static int components(Graph g) {
+		return cyclomaticNumberAndComponents(g)[1];
+	}
+
+	/**
+	 * Returns whether every edge of <code>g</code> also exists in the opposite
+	 * direction.
+	 */
+	public static boolean isUndirected(Graph g) {
+		Set<Edge> edges = new HashSet<Edge>(g.getEdges());
+		for (Edge e : g.getEdges()) {
+			if (!edges.contains(new Edge(e.getDestination(), e.getSource()))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Splits the underlying undirected graph of <code>g</code> into its
+	 * components, isolated vertices included. Every component has both
+	 * directions of each of its edges, without self-loops and duplicates, and
+	 * keeps the vertex order of <code>g</code>.
+	 */
+	public static List<Graph> undirectedComponents(Graph g) {
+		List<Vertex> vertices = g.getVertices();
+		Map<Vertex, Integer> index = new HashMap<Vertex, Integer>();
+		int[] parent = new int[vertices.size()];
+		for (int i = 0; i < vertices.size(); i++) {
+			index.put(vertices.get(i), i);
+			parent[i] = i;
+		}
+		List<int[]> pairs = new ArrayList<int[]>();
+		Set<Long> seen = new HashSet<Long>();
+		for (Edge e : g.getEdges()) {
+			int u = index.get(e.getSource());
+			int v = index.get(e.getDestination());
+			if (u != v && seen.add(((long) Math.min(u, v) << 32) | Math.max(u, v))) {
+				pairs.add(new int[] { u, v });
+				parent[root(parent, u)] = root(parent, v);
+			}
+		}
+
+		Map<Integer, Graph> components = new LinkedHashMap<Integer, Graph>();
+		for (int i = 0; i < vertices.size(); i++) {
+			int r = root(parent, i);
+			Graph component = components.get(r);
+			if (component == null) {
+				component = new Graph(new ArrayList<Vertex>(), new ArrayList<Edge>());
+				components.put(r, component);
+			}
+			component.getVertices().add(vertices.get(i));
+		}
+		for (int[] pair : pairs) {
+			Graph component = components.get(root(parent, pair[0]));
+			addBidirectionalEdge(component.getEdges(), vertices.get(pair[0]), vertices.get(pair[1]));
+		}
+		return new ArrayList<Graph>(components.values());
+	}
+
+	private static int[] cyclomaticNumberAndComponents(Graph g) {
+		List<Vertex> vertices = g.getVertices();
+		Map<Vertex, Integer> index = new HashMap<Vertex, Integer>();
+		for (int i = 0; i < vertices.size(); i++) {
+			index.put(vertices.get(i), i);
+		}
+		int[] parent = new int[vertices.size()];
+		for (int i = 0; i < parent.length; i++) {
+			parent[i] = i;
+		}
+		Set<Long> seen = new HashSet<Long>();
+		int edges = 0;
+		int components = vertices.size();
+		for (Edge e : g.getEdges()) {
+			int u = index.get(e.getSource());
+			int v = index.get(e.getDestination());
+			if (u == v || !seen.add(((long) Math.min(u, v) << 32) | Math.max(u, v))) {
+				continue;
+			}
+			edges++;
+			int ru = root(parent, u);
+			int rv = root(parent, v);
+			if (ru != rv) {
+				parent[ru] = rv;
+				components--;
+			}
+		}
+		return new int[] { edges - vertices.size() + components, components };
+	}
+
+	private static int root(int[] parent, int x) {
+		while (parent[x] != x) {
+			parent[x] = parent[parent[x]];
+			x = parent[x];
+		}
+		return x;
+	}
+
+	private static Vertex vertex(int x, int y) {
+		Point p = new Point(x, y);
+		return new Vertex("Vertex (" + p.getX() + "," + p.getY() + ")", p);
+	}
+
+	private static Vertex[][] gridVertices(int rows, int columns) {
+		Vertex[][] v = new Vertex[rows][columns];
+		for (int r = 0; r < rows; r++) {
+			for (int c = 0; c < columns; c++) {
+				v[r][c] = vertex(c, r);
+			}
+		}
+		return v;
+	}
+
+	private static List<Vertex> lineVertices(int n, int y) {
+		List<Vertex> vertices = new ArrayList<Vertex>();
+		for (int i = 0; i < n; i++) {
+			vertices.add(vertex(i, y));
+		}
+		return vertices;
+	}
+
+	private static List<Vertex> flatten(Vertex[][] v) {
+		List<Vertex> vertices = new ArrayList<Vertex>();
+		for (Vertex[] row : v) {
+			for (Vertex vertex : row) {
+				vertices.add(vertex);
+			}
+		}
+		return vertices;
+	}
+
+	private static void addBidirectionalEdge(List<Edge> edges, Vertex source, Vertex destination) {
+		edges.add(new Edge(source, destination));
+		edges.add(new Edge(destination, source));
+	}
+}
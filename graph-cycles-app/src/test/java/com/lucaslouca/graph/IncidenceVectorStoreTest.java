@@ -0,0 +1,120 @@
+package com.lucaslouca.graph;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Point;
+import java.math.BigInteger;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+public class IncidenceVectorStoreTest {
+
+	@Test
+	public void testRandomAccessAcrossPagesAndFile() throws Exception {
+		// 130 bits need 3 words, 2 vectors per page, 2 pages in memory
+		IncidenceVectorStore store = new IncidenceVectorStore(130, 96, 48);
+		try {
+			for (int i = 0; i < 11; i++) {
+				store.add(BigInteger.ONE.shiftLeft(129).or(BigInteger.valueOf(i)));
+			}
+			assertEquals(11, store.size());
+			for (int i = 0; i < 11; i++) {
+				assertEquals(BigInteger.ONE.shiftLeft(129).or(BigInteger.valueOf(i)), store.get(i));
+			}
+			assertEquals(BigInteger.valueOf(3 ^ 5), store.xor(3, 5));
+			assertEquals(BigInteger.ONE.shiftLeft(129).or(BigInteger.valueOf(3 & 5)), store.and(3, 5));
+			assertTrue(store.intersects(3, 5));
+		} finally {
+			store.close();
+		}
+	}
+
+	@Test
+	public void testIntersects() throws Exception {
+		IncidenceVectorStore store = new IncidenceVectorStore(8);
+		try {
+			store.add(new BigInteger("11000000", 2));
+			store.add(new BigInteger("00110000", 2));
+			assertFalse(store.intersects(0, 1));
+			assertEquals(new BigInteger("11110000", 2), store.xor(0, 1));
+		} finally {
+			store.close();
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testWordsWiderThanWidth() throws Exception {
+		IncidenceVectorStore store = new IncidenceVectorStore(70);
+		try {
+			store.add(new long[] { 0, 1L << 6 });
+		} finally {
+			store.close();
+		}
+	}
+
+	@Test
+	public void testParallelScan() throws Exception {
+		IncidenceVectorStore store = new IncidenceVectorStore(64, 64, 16);
+		try {
+			long expected = 0;
+			for (int i = 0; i < 1000; i++) {
+				store.add(new long[] { i });
+				expected += i;
+			}
+			final AtomicLong sum = new AtomicLong();
+			store.scan(new IncidenceVectorStore.Visitor() {
+				@Override
+				public void visit(long index, long[] words) {
+					assertEquals(index, words[0]);
+					sum.addAndGet(words[0]);
+				}
+			}, 4);
+			assertEquals(expected, sum.get());
+		} finally {
+			store.close();
+		}
+	}
+
+	@Test
+	public void testAllCycleVectorsMatchAllCycles() throws Exception {
+		Graph g = new Graph();
+		g.addBidirectionalEdge(new Point(0, 0), new Point(0, 1));
+		g.addBidirectionalEdge(new Point(0, 1), new Point(0, 2));
+		g.addBidirectionalEdge(new Point(0, 1), new Point(1, 1));
+		g.addBidirectionalEdge(new Point(0, 2), new Point(1, 2));
+		g.addBidirectionalEdge(new Point(1, 2), new Point(1, 1));
+		g.addBidirectionalEdge(new Point(1, 1), new Point(1, 0));
+		g.addBidirectionalEdge(new Point(1, 0), new Point(0, 0));
+		g.addBidirectionalEdge(new Point(1, 2), new Point(2, 2));
+		g.addBidirectionalEdge(new Point(2, 2), new Point(2, 1));
+		g.addBidirectionalEdge(new Point(2, 1), new Point(1, 1));
+		g.addBidirectionalEdge(new Point(2, 1), new Point(2, 0));
+		g.addBidirectionalEdge(new Point(2, 0), new Point(1, 0));
+
+		CycleUtil cycleUtil = new CycleUtil(g);
+		Set<Set<Edge>> expected = new HashSet<Set<Edge>>();
+		for (Graph cycle : cycleUtil.listAllCycles()) {
+			expected.add(new HashSet<Edge>(cycle.getEdges()));
+		}
+
+		IncidenceVectorStore store = cycleUtil.listAllCycleVectors(0);
+		try {
+			Set<Set<Edge>> actual = new HashSet<Set<Edge>>();
+			for (BigInteger vector : store) {
+				List<Edge> edges = cycleUtil.cycleFromIncidenceVector(vector).getEdges();
+				actual.add(new HashSet<Edge>(edges));
+			}
+			assertEquals(15, store.size());
+			assertEquals(expected, actual);
+		} finally {
+			store.close();
+		}
+	}
+
+}
@@ -0,0 +1,8 @@
+package com.lucaslouca.graph;
+
+/**
+ * JUnit category for timed tests. They only run with the Maven profile
+ * <code>performance</code>: <code>mvn test -Pperformance</code>.
+ */
+public interface PerformanceTests {
+}